@@ -0,0 +1,22 @@
+#!/bin/sh
+# Compares wall-clock time of short runs with and without the CDS archive.
+# Build first with `mvn package`. Usage: scripts/startup-benchmark.sh [runs]
+RUNS=${1:-20}
+JAR=target/Vimond_Technical_Assessment-1.0.jar
+JSA=target/Vimond_Technical_Assessment-1.0.jsa
+INPUT=src/cds/training-input.txt
+
+run() {
+    start=$(date +%s%N)
+    i=0
+    while [ $i -lt "$RUNS" ]; do
+        java "$@" -jar "$JAR" "$INPUT" > /dev/null
+        i=$((i + 1))
+    done
+    end=$(date +%s%N)
+    echo $(( (end - start) / RUNS / 1000000 ))
+}
+
+echo "default:          $(run -Xshare:auto) ms/run"
+echo "app CDS archive:  $(run -XX:SharedArchiveFile="$JSA") ms/run"
+echo "app CDS + C1:     $(run -XX:SharedArchiveFile="$JSA" -XX:TieredStopAtLevel=1) ms/run"
@@ -0,0 +1,35 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A {@link DiffSink} writing a compact change log, one change per line: <br>
+ * {@code +x-y} for an added range and {@code -x-y} for a removed range. <br>
+ *
+ * Example: <br>
+ * {@code diffCoverings([1-5], [3-8])} is written as {@code -1-2} and {@code +6-8}
+ */
+public class ChangeLog implements DiffSink {
+    private final Appendable out;
+
+    public ChangeLog(Appendable out) {
+        this.out = out;
+    }
+
+    @Override
+    public void added(Interval interval) {
+        write('+', interval);
+    }
+
+    @Override
+    public void removed(Interval interval) {
+        write('-', interval);
+    }
+
+    private void write(char sign, Interval interval) {
+        try {
+            out.append(sign).append(interval.toString()).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A set of included and excluded intervals, shared between many writer and reader threads. <br><br>
+ *
+ * Writes are appended to a lock-free log and never block. A dedicated applier thread drains the log
+ * in batches, and publishes a new immutable {@link Snapshot} per batch, so every write is published. <br>
+ * {@link #snapshot()} is a single volatile read, and so wait-free, but may miss the latest writes.
+ * {@link #awaitSnapshot()} blocks until every write that has returned is applied. <br>
+ * {@link #close()} applies the writes still in the log, and stops the applier. <br><br>
+ *
+ * Each batch costs O(N) in the size N of the whole set, as the snapshot is rebuilt with a linear merge. <br>
+ * Batches grow when writes arrive faster than the applier publishes, which spreads that cost over more writes,
+ * but a slow trickle of writes costs O(N) each, and so O(N^2) for N writes in total.
+ */
+public class ConcurrentIntervalSet implements AutoCloseable {
+    static private final int MAX_BATCH_SIZE = 1 << 16;
+
+    private final ConcurrentLinkedQueue<Write> log = new ConcurrentLinkedQueue<>();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(
+            new Snapshot(0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>())
+    );
+    /**
+     * Notified by the applier after each published snapshot
+     */
+    private final Object published = new Object();
+    private final Thread applier = new Thread(this::applyLoop, "ConcurrentIntervalSet-applier");
+    private volatile boolean closed = false, stopped = false;
+
+    /**
+     * An immutable, versioned view of the set. <br>
+     * The version is the number of writes applied, so a higher version is a newer snapshot
+     */
+    static public final class Snapshot {
+        public final long version;
+        /**
+         * The minimal non-excluded interval covering, sorted by start
+         */
+        public final List<Interval> covering;
+        private final List<Interval> include, exclude;
+
+        private Snapshot(long version, List<Interval> include, List<Interval> exclude, List<Interval> covering) {
+            this.version = version;
+            this.include = include;
+            this.exclude = exclude;
+            this.covering = Collections.unmodifiableList(covering);
+        }
+    }
+
+    private record Write(Interval interval, boolean included) {}
+
+    public ConcurrentIntervalSet() {
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    /**
+     * Adds an interval to the included intervals
+     * @throws IllegalStateException if the set is closed
+     */
+    public void include(Interval interval) {
+        write(new Write(interval, true));
+    }
+
+    /**
+     * Adds an interval to the excluded intervals
+     * @throws IllegalStateException if the set is closed
+     */
+    public void exclude(Interval interval) {
+        write(new Write(interval, false));
+    }
+
+    /**
+     * Wait-free, does not wait for pending writes
+     * @return the latest published snapshot, which may miss writes still in the log
+     */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Blocks while the applier applies pending writes
+     * @return a snapshot containing every write that returned before this call
+     * @throws IllegalStateException if the set was closed before the writes were applied
+     */
+    public Snapshot awaitSnapshot() throws InterruptedException {
+        // writes counted after this read are not waited for
+        long target = submitted.get();
+        Snapshot snapshot = current.get();
+        if (snapshot.version >= target) {
+            return snapshot;
+        }
+        synchronized (published) {
+            while ((snapshot = current.get()).version < target) {
+                if (stopped) {
+                    throw new IllegalStateException("The set was closed with writes not applied");
+                }
+                published.wait();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Stops accepting writes, and waits for the applier to apply the writes still in the log
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        LockSupport.unpark(applier);
+        applier.join();
+    }
+
+    private void write(Write write) {
+        if (closed) {
+            throw new IllegalStateException("The set is closed");
+        }
+        // count before adding, so version <= submitted always holds,
+        // and equality means every write that has returned is applied
+        submitted.incrementAndGet();
+        log.add(write);
+        // a write added after the applier found the log empty leaves a permit,
+        // so the applier does not stay parked
+        LockSupport.unpark(applier);
+    }
+
+    private void applyLoop() {
+        while (!closed || !log.isEmpty()) {
+            if (!applyLog()) {
+                LockSupport.park(this);
+            }
+        }
+        stopped = true;
+        synchronized (published) {
+            published.notifyAll();
+        }
+    }
+
+    /**
+     * Applies up to {@code MAX_BATCH_SIZE} writes from the log and publishes a new snapshot, only called by the applier. <br>
+     * Only the batch is sorted, it is then merged into the combined intervals in linear time
+     * @return if any writes were applied
+     */
+    private boolean applyLog() {
+        List<Interval> include = new ArrayList<>();
+        List<Interval> exclude = new ArrayList<>();
+        long applied = 0;
+        Write write;
+        while (applied < MAX_BATCH_SIZE && (write = log.poll()) != null) {
+            (write.included ? include : exclude).add(write.interval);
+            applied++;
+        }
+        if (applied == 0) {
+            return false;
+        }
+        Snapshot snapshot = current.get();
+        include = Tools.mergeCombinedIntervals(snapshot.include, Tools.combineOverlappingIntervals(include));
+        exclude = Tools.mergeCombinedIntervals(snapshot.exclude, Tools.combineOverlappingIntervals(exclude));
+        List<Interval> covering = Tools.nonExcludedCovering(include, exclude);
+        current.set(new Snapshot(snapshot.version + applied, include, exclude, covering));
+        synchronized (published) {
+            published.notifyAll();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Receives the ranges found by {@link Tools#diffCoverings}, in sorted order
+ */
+public interface DiffSink {
+    /**
+     * Called for a range covered by the new covering, but not the old
+     */
+    void added(Interval interval);
+
+    /**
+     * Called for a range covered by the old covering, but not the new
+     */
+    void removed(Interval interval);
+}
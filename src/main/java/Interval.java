@@ -1,9 +1,20 @@
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Comparator;
 
 public class Interval {
     public final int start, end;
 
+    /**
+     * Orders intervals by their start. <br>
+     * Written as a class rather than a lambda, so sorting does not
+     * pay for the lambda bootstrap on a cold JVM
+     */
+    static public final Comparator<Interval> BY_START = new Comparator<>() {
+        @Override
+        public int compare(Interval left, Interval right) {
+            return Integer.compare(left.start, right.start);
+        }
+    };
+
     private Interval(int start, int end) {
         this.start = start;
         this.end = end;
@@ -123,25 +134,48 @@ public class Interval {
 
     /**
      * Takes a string on the form 123-234 (regex '-?\d+--?\d+'),
-     * and converts it into an interval
+     * and converts it into an interval <br>
+     * The string is scanned by hand, as compiling the regex costs
+     * more than the parsing itself on short runs
      *
      * @param intervalString the string to parse
      * @return an interval created from the string
      */
     static public Interval parseInterval(String intervalString) {
-        String regex = "(-?\\d+)-(-?\\d+)";
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(intervalString.strip());
-        if (matcher.matches()) {
+        String string = intervalString.strip();
+        //skip index 0, so a leading minus is not taken as the separator
+        int separator = string.indexOf('-', 1);
+        if (separator > 0
+                && isInteger(string, 0, separator)
+                && isInteger(string, separator + 1, string.length())) {
             return of(
-                    Integer.parseInt(matcher.group(1)),
-                    Integer.parseInt(matcher.group(2))
+                    Integer.parseInt(string, 0, separator, 10),
+                    Integer.parseInt(string, separator + 1, string.length(), 10)
             );
         } else {
             throw new RuntimeException("Could not parse Interval from: '" + intervalString + "'");
         }
     }
 
+    /**
+     * Checks if {@code string[from, to)} is on the form '-?\d+'
+     */
+    static private boolean isInteger(String string, int from, int to) {
+        if (from < to && string.charAt(from) == '-') {
+            from++;
+        }
+        if (from >= to) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            char c = string.charAt(i);
+            if (c < '0' || '9' < c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Create a new interval from the given start and end. <br>
      * If {@code end < start}, it changes the order!
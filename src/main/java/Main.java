@@ -1,14 +1,63 @@
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 public class Main {
+    /**
+     * Reads the included and excluded intervals from stdin,
+     * or from the file given as the first argument. <br>
+     * With {@code --stream [allowedLateness]}, stdin is read as a feed instead, see {@link #stream}
+     */
     public static void main(String[] args) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        if (args.length > 0 && args[0].equals("--stream")) {
+            int allowedLateness = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+            stream(new BufferedReader(new InputStreamReader(System.in)), allowedLateness);
+            return;
+        }
+        if (args.length > 0) {
+            try (BufferedReader reader = Files.newBufferedReader(Path.of(args[0]))) {
+                printCovering(reader);
+            }
+        } else {
+            printCovering(new BufferedReader(new InputStreamReader(System.in)));
+        }
+    }
+
+    /**
+     * Reads the included and excluded intervals, one line each, and prints the covering
+     */
+    static void printCovering(BufferedReader reader) throws IOException {
         List<Interval> include = Tools.parseIntervalsFromInput(reader);
         List<Interval> exclude = Tools.parseIntervalsFromInput(reader);
         List<Interval> results = Tools.minimalNonExcludedIntervalCovering(include, exclude);
         System.out.println(results.isEmpty() ? "(none)" : results);
     }
+
+    /**
+     * Reads a feed with one command per line, {@code include x-y}, {@code exclude x-y} or {@code watermark w},
+     * and prints each interval of the covering on its own line as soon as it is final
+     */
+    static void stream(BufferedReader reader, int allowedLateness) throws IOException {
+        StreamingCovering covering = new StreamingCovering(allowedLateness, System.out::println);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            int space = line.indexOf(' ');
+            String command = space < 0 ? line : line.substring(0, space);
+            String argument = space < 0 ? "" : line.substring(space + 1);
+            switch (command) {
+                case "include" -> covering.include(Interval.parseInterval(argument));
+                case "exclude" -> covering.exclude(Interval.parseInterval(argument));
+                case "watermark" -> covering.watermark(Integer.parseInt(argument.strip()));
+                default -> throw new RuntimeException("Unknown command: '" + line + "'");
+            }
+        }
+        covering.flush();
+    }
 }
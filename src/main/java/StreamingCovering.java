@@ -0,0 +1,148 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Computes the minimal non-excluded interval covering of a feed of included and excluded intervals,
+ * where the intervals arrive roughly ordered by their start. <br><br>
+ *
+ * A watermark {@code w} promises that no interval starting before {@code w - allowedLateness} arrives later.
+ * On each watermark, the intervals of the covering that can no longer change are passed to the sink
+ * and evicted. Between watermarks intervals are only appended,
+ * so memory scales with what arrives between two watermarks and not the whole feed. <br>
+ * Intervals arriving after the part of the covering they touch has been emitted, are clipped,
+ * and the dropped part is counted by {@link #lateArrivals()}. <br>
+ * Not thread-safe.
+ */
+public class StreamingCovering {
+    private final long allowedLateness;
+    private final Consumer<Interval> sink;
+
+    private List<Interval> include = new ArrayList<>();
+    private List<Interval> exclude = new ArrayList<>();
+
+    /**
+     * Everything below this point has been emitted,
+     * intervals arriving below it are clipped
+     */
+    private long evictedBelow = Integer.MIN_VALUE;
+    private long frontier = Integer.MIN_VALUE;
+    private long lateArrivals = 0;
+
+    /**
+     * @param allowedLateness how far below the watermark intervals may still start, must be non-negative
+     * @param sink receives the finalized intervals of the covering, in sorted order
+     */
+    public StreamingCovering(int allowedLateness, Consumer<Interval> sink) {
+        if (allowedLateness < 0) {
+            throw new IllegalArgumentException("allowedLateness must be non-negative, was: " + allowedLateness);
+        }
+        this.allowedLateness = allowedLateness;
+        this.sink = sink;
+    }
+
+    /**
+     * Adds an interval to the included intervals
+     */
+    public void include(Interval interval) {
+        add(include, interval);
+    }
+
+    /**
+     * Adds an interval to the excluded intervals
+     */
+    public void exclude(Interval interval) {
+        add(exclude, interval);
+    }
+
+    /**
+     * Advances the watermark, emits the part of the covering that is final, and evicts its state. <br>
+     * A watermark lower than a previous one is ignored.
+     * @param watermark the new watermark
+     */
+    public void watermark(int watermark) {
+        long newFrontier = watermark - allowedLateness;
+        if (newFrontier <= frontier) {
+            return;
+        }
+        frontier = newFrontier;
+
+        // a covering interval ending at frontier - 1 could still be extended
+        // by an included interval starting at the frontier
+        List<Interval> covering = covering();
+        int index = 0;
+        while (index < covering.size() && covering.get(index).end + 1L < frontier) {
+            sink.accept(covering.get(index));
+            index++;
+        }
+        long low = index < covering.size() ? Math.min(covering.get(index).start, frontier) : frontier;
+        evict(Math.max(low, evictedBelow));
+    }
+
+    /**
+     * Emits the rest of the covering, as if the feed had ended
+     */
+    public void flush() {
+        for (Interval interval : covering()) {
+            sink.accept(interval);
+        }
+        include = new ArrayList<>();
+        exclude = new ArrayList<>();
+        frontier = evictedBelow = (long) Integer.MAX_VALUE + 1;
+    }
+
+    /**
+     * @return the number of intervals that arrived (partly) below what had already been emitted
+     */
+    public long lateArrivals() {
+        return lateArrivals;
+    }
+
+    /**
+     * @return the number of intervals currently held in the window
+     */
+    public int activeSize() {
+        return include.size() + exclude.size();
+    }
+
+    private void add(List<Interval> intervals, Interval interval) {
+        if (interval.start < evictedBelow) {
+            lateArrivals++;
+            if (interval.end < evictedBelow) {
+                return;
+            }
+            interval = Interval.of((int) evictedBelow, interval.end);
+        }
+        intervals.add(interval);
+    }
+
+    private List<Interval> covering() {
+        if (include.isEmpty()) {
+            return new ArrayList<>();
+        }
+        include = Tools.combineOverlappingIntervals(include);
+        exclude = Tools.combineOverlappingIntervals(exclude);
+        return Tools.nonExcludedCovering(include, exclude);
+    }
+
+    /**
+     * Drops everything below {@code low} from the window
+     */
+    private void evict(long low) {
+        evictedBelow = low;
+        include = clip(include, low);
+        exclude = clip(exclude, low);
+    }
+
+    static private List<Interval> clip(List<Interval> intervals, long low) {
+        List<Interval> clipped = new ArrayList<>(intervals.size());
+        for (Interval interval : intervals) {
+            if (low <= interval.start) {
+                clipped.add(interval);
+            } else if (low <= interval.end) {
+                clipped.add(Interval.of((int) low, interval.end));
+            }
+        }
+        return clipped;
+    }
+}
@@ -1,10 +1,7 @@
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public abstract class Tools {
 
@@ -19,11 +16,14 @@ public abstract class Tools {
         if (line.isEmpty() || line.equals("(none)")) {
             return new ArrayList<>();
         }
+        // a plain loop instead of a stream, as the stream machinery
+        // takes longer to load than parsing a short line
         String[] intervalStrings = line.split(",");
-
-        return Arrays.stream(intervalStrings)
-                .map(Interval::parseInterval)
-                .collect(Collectors.toCollection(ArrayList::new));
+        List<Interval> intervals = new ArrayList<>(intervalStrings.length);
+        for (String intervalString : intervalStrings) {
+            intervals.add(Interval.parseInterval(intervalString));
+        }
+        return intervals;
     }
 
     /**
@@ -34,10 +34,13 @@ public abstract class Tools {
      * @return A list of intervals sorted by the start of the intervals, all starts of intervals are unique!
      */
     static public List<Interval> combineOverlappingIntervals(List<Interval> intervals) {
+        if (intervals.isEmpty()) {
+            return new ArrayList<>();
+        }
         // sort by start of interval.
         // In this step we could also combine all intervals
         // with equal starts by choosing the one with the maximal .end
-        intervals.sort(Comparator.comparingInt(i -> i.start));
+        intervals.sort(Interval.BY_START);
         List<Interval> stack = new ArrayList<>();
 
         Interval current = intervals.get(0);
@@ -55,6 +58,37 @@ public abstract class Tools {
         return stack;
     }
 
+    /**
+     * Combines two lists of intervals that are already combined, as returned by {@link #combineOverlappingIntervals}. <br>
+     * This is done in O(n + m) by merging the lists, and does not mutate {@code left} or {@code right}
+     * @return A list of intervals sorted by the start of the intervals, all starts of intervals are unique!
+     */
+    static public List<Interval> mergeCombinedIntervals(List<Interval> left, List<Interval> right) {
+        List<Interval> stack = new ArrayList<>(left.size() + right.size());
+        int leftIndex = 0, rightIndex = 0;
+        Interval current = null, next;
+        while (leftIndex < left.size() || rightIndex < right.size()) {
+            if (rightIndex == right.size()
+                    || (leftIndex < left.size() && left.get(leftIndex).start <= right.get(rightIndex).start)) {
+                next = left.get(leftIndex++);
+            } else {
+                next = right.get(rightIndex++);
+            }
+            if (current == null) {
+                current = next;
+            } else if (current.intersects(next) || current.isSequentialWith(next)) {
+                current = current.union(next);
+            } else {
+                stack.add(current);
+                current = next;
+            }
+        }
+        if (current != null) {
+            stack.add(current);
+        }
+        return stack;
+    }
+
     /**
      * Takes a list of intervals to include, and a list of intervals to exclude; <br>
      * and finds the minimal set of intervals needed to cover all the elements in <br>
@@ -66,20 +100,35 @@ public abstract class Tools {
      * @return List of the minimal set of intervals in sorted order
      */
     static public List<Interval> minimalNonExcludedIntervalCovering(List<Interval> include, List<Interval> exclude) {
-        include = combineOverlappingIntervals(include);
-        exclude = combineOverlappingIntervals(exclude);
+        return nonExcludedCovering(
+                combineOverlappingIntervals(include),
+                combineOverlappingIntervals(exclude)
+        );
+    }
+
+    /**
+     * Like {@link #minimalNonExcludedIntervalCovering}, but for lists that are already combined,
+     * as returned by {@link #combineOverlappingIntervals}. <br>
+     * This is done in O(n + m), and does not mutate {@code include} or {@code exclude}
+     * @param include List of the combined included intervals
+     * @param exclude List of the combined excluded intervals
+     * @return List of the minimal set of intervals in sorted order
+     */
+    static public List<Interval> nonExcludedCovering(List<Interval> include, List<Interval> exclude) {
         List<Interval> stack = new ArrayList<>();
 
         int includeIndex = 0, excludeIndex = 0;
-        Interval in, ex;
-        while (includeIndex < include.size() && excludeIndex < exclude.size()) {
-            in = include.get(includeIndex);
+        //what is left of include[includeIndex] after cutting away the excluded intervals,
+        //kept here so the list itself is not mutated
+        Interval in = getOrNull(include, includeIndex);
+        Interval ex;
+        while (in != null && excludeIndex < exclude.size()) {
             ex = exclude.get(excludeIndex);
 
             if (!in.intersects(ex)) {
                 if (in.endsBefore(ex)) {
                     stack.add(in);
-                    includeIndex++;
+                    in = getOrNull(include, ++includeIndex);
                 } else {
                     excludeIndex++;
                 }
@@ -87,25 +136,100 @@ public abstract class Tools {
             }
 
             if (ex.covers(in)) {
-                includeIndex++;
+                in = getOrNull(include, ++includeIndex);
                 continue;
             }
-            if (ex.leftIntersects(in) || ex.splits(in)) {
-                include.set(includeIndex, Interval.of(ex.end + 1, in.end));
+            if (ex.splits(in)) {
+                stack.add(Interval.of(in.start, ex.start - 1));
+                in = Interval.of(ex.end + 1, in.end);
                 excludeIndex++;
-            }
-            if (ex.rightIntersects(in) || ex.splits(in)) {
+            } else if (ex.leftIntersects(in)) {
+                in = Interval.of(ex.end + 1, in.end);
+                excludeIndex++;
+            } else {
                 stack.add(Interval.of(in.start, ex.start - 1));
-                includeIndex++;
-            }
-            if (ex.splits(in)) {
-                //the split is done in-place and therefor
-                //we need to "de-increment" the index
-                includeIndex--;
+                in = getOrNull(include, ++includeIndex);
             }
         }
-        stack.addAll(include.subList(includeIndex, include.size()));
+        if (in != null) {
+            stack.add(in);
+            stack.addAll(include.subList(includeIndex + 1, include.size()));
+        }
 
         return stack;
     }
+
+    static private Interval getOrNull(List<Interval> intervals, int index) {
+        return index < intervals.size() ? intervals.get(index) : null;
+    }
+
+    /**
+     * Finds the ranges added and removed when going from the covering {@code before} to {@code after}, <br>
+     * and passes them to the {@code sink} in sorted order. <br>
+     * This is done in O(n + m) with one pass over the start and end of the intervals, <br>
+     * so the inputs must be coverings, sorted with no overlapping or sequential intervals,
+     * as returned by {@link #minimalNonExcludedIntervalCovering}. <br>
+     *
+     * Does not mutate {@code before} or {@code after}
+     * @param before the old covering
+     * @param after the new covering
+     * @param sink receives the added and removed ranges
+     * @throws IllegalArgumentException if either input is not a covering, before anything is passed to the sink
+     */
+    static public void diffCoverings(List<Interval> before, List<Interval> after, DiffSink sink) {
+        // checked up front, so the sink never receives a partial diff
+        checkCovering(before);
+        checkCovering(after);
+
+        // the k'th boundary of a covering is the start of interval k/2 when k is even,
+        // and one past its end when k is odd. Each boundary flips whether we are inside the covering
+        int beforeIndex = 0, afterIndex = 0;
+        long beforeBoundary = boundary(before, 0), afterBoundary = boundary(after, 0);
+        boolean inBefore = false, inAfter = false;
+        long from = 0;
+        while (beforeBoundary != Long.MAX_VALUE || afterBoundary != Long.MAX_VALUE) {
+            long to = Math.min(beforeBoundary, afterBoundary);
+            if (inBefore != inAfter) {
+                Interval changed = Interval.of((int) from, (int) (to - 1));
+                if (inAfter) {
+                    sink.added(changed);
+                } else {
+                    sink.removed(changed);
+                }
+            }
+            if (beforeBoundary == to) {
+                inBefore = !inBefore;
+                beforeBoundary = boundary(before, ++beforeIndex);
+            }
+            if (afterBoundary == to) {
+                inAfter = !inAfter;
+                afterBoundary = boundary(after, ++afterIndex);
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * @return the k'th boundary of the covering, or {@code Long.MAX_VALUE} past the last one
+     */
+    static private long boundary(List<Interval> covering, int k) {
+        if (k >= 2 * covering.size()) {
+            return Long.MAX_VALUE;
+        }
+        Interval interval = covering.get(k / 2);
+        return k % 2 == 0 ? interval.start : interval.end + 1L;
+    }
+
+    /**
+     * Checks in O(n) that the intervals are sorted, with no overlapping or sequential intervals
+     * @throws IllegalArgumentException if they are not
+     */
+    static private void checkCovering(List<Interval> covering) {
+        for (int i = 1; i < covering.size(); i++) {
+            if (covering.get(i).start <= covering.get(i - 1).end + 1L) {
+                throw new IllegalArgumentException("Not a covering, intervals overlap or are sequential at: '"
+                        + covering.get(i) + "'");
+            }
+        }
+    }
 }
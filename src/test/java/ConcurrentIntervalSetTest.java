@@ -0,0 +1,222 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentIntervalSetTest {
+
+    /**
+     * Checks if the number is in one of the sorted intervals, using binary search
+     */
+    private static boolean covers(List<Interval> intervals, int number) {
+        int low = 0, high = intervals.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Interval interval = intervals.get(middle);
+            if (interval.contains(number)) {
+                return true;
+            } else if (interval.end < number) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testSnapshot() throws InterruptedException {
+        try (ConcurrentIntervalSet set = new ConcurrentIntervalSet()) {
+            testSnapshot(set);
+        }
+    }
+
+    private void testSnapshot(ConcurrentIntervalSet set) throws InterruptedException {
+        ConcurrentIntervalSet.Snapshot empty = set.snapshot();
+        assertEquals(0, empty.version);
+        assertTrue(empty.covering.isEmpty());
+
+        set.include(Interval.of(3, 7));
+        set.include(Interval.of(11, 15));
+        set.exclude(Interval.of(4, 5));
+        ConcurrentIntervalSet.Snapshot snapshot = set.awaitSnapshot();
+
+        assertEquals(3, snapshot.version);
+        assertEquals(List.of(Interval.of(3, 3), Interval.of(6, 7), Interval.of(11, 15)), snapshot.covering);
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.covering.clear());
+
+        //old snapshots are unaffected by later writes
+        set.exclude(Interval.of(11, 15));
+        assertEquals(List.of(Interval.of(3, 3), Interval.of(6, 7)), set.awaitSnapshot().covering);
+        assertEquals(3, snapshot.covering.size());
+        assertTrue(empty.covering.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentWritersAndReaders() throws InterruptedException {
+        try (ConcurrentIntervalSet set = new ConcurrentIntervalSet()) {
+            testConcurrentWritersAndReaders(set);
+        }
+    }
+
+    private void testConcurrentWritersAndReaders(ConcurrentIntervalSet set) throws InterruptedException {
+        int writers = 4, readers = 4, writesPerThread = 2_000;
+        List<Interval> include = Collections.synchronizedList(new ArrayList<>());
+        List<Interval> exclude = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int w = 0; w < writers; w++) {
+            Random random = new Random(w);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < writesPerThread; i++) {
+                    int start = random.nextInt(100_000);
+                    Interval interval = Interval.of(start, start + random.nextInt(50));
+                    if (random.nextInt(3) == 0) {
+                        exclude.add(interval);
+                        set.exclude(interval);
+                    } else {
+                        include.add(interval);
+                        set.include(interval);
+                    }
+                }
+            }));
+        }
+        for (int r = 0; r < readers; r++) {
+            threads.add(new Thread(() -> {
+                long version = 0;
+                while (!done.get()) {
+                    ConcurrentIntervalSet.Snapshot snapshot = set.snapshot();
+                    if (snapshot.version < version
+                            || (!snapshot.covering.isEmpty() && !ToolsTest.isSortedAndUnique(snapshot.covering))) {
+                        failed.set(true);
+                    }
+                    version = snapshot.version;
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (Thread thread : threads.subList(0, writers)) {
+            thread.join();
+        }
+        done.set(true);
+        for (Thread thread : threads.subList(writers, threads.size())) {
+            thread.join();
+        }
+
+        assertFalse(failed.get());
+        ConcurrentIntervalSet.Snapshot snapshot = set.awaitSnapshot();
+        assertEquals((long) writers * writesPerThread, snapshot.version);
+        assertEquals(Tools.minimalNonExcludedIntervalCovering(include, exclude), snapshot.covering);
+    }
+
+    @Test
+    public void testWriteVisibleAfterReturn() throws InterruptedException {
+        int threads = 8, writesPerThread = 2_000;
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Thread> writers = new ArrayList<>();
+
+        try (ConcurrentIntervalSet set = new ConcurrentIntervalSet()) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                writers.add(new Thread(() -> {
+                    for (int i = 0; i < writesPerThread; i++) {
+                        //every write gets its own, non-sequential point
+                        int point = 2 * (i * threads + thread);
+                        set.include(Interval.of(point, point));
+                        try {
+                            if (!covers(set.awaitSnapshot().covering, point)) {
+                                failed.set(true);
+                            }
+                        } catch (InterruptedException e) {
+                            failed.set(true);
+                        }
+                    }
+                }));
+            }
+            writers.forEach(Thread::start);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+
+            assertFalse(failed.get());
+            assertEquals(threads * writesPerThread, set.awaitSnapshot().covering.size());
+        }
+    }
+
+    @Test
+    public void testSnapshotCatchesUpAfterWrites() throws InterruptedException {
+        int threads = 4, writesPerThread = 500;
+        long total = (long) threads * writesPerThread;
+        ConcurrentIntervalSet set = new ConcurrentIntervalSet();
+        List<Thread> writers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < writesPerThread; i++) {
+                    int point = 2 * (i * threads + thread);
+                    set.include(Interval.of(point, point));
+                    //races awaitSnapshot against the other writers
+                    if (i % 10 == 0) {
+                        try {
+                            set.awaitSnapshot();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        //no more writes, so the wait-free read must catch up on its own
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (set.snapshot().version < total) {
+                Thread.onSpinWait();
+            }
+        });
+
+        set.close();
+        assertEquals(total, set.snapshot().version);
+        assertEquals(total, set.snapshot().covering.size());
+        assertThrowsExactly(IllegalStateException.class, () -> set.include(Interval.of(1, 1)));
+    }
+
+    @Test
+    public void testAwaitRacingWrite() throws InterruptedException {
+        for (int trial = 0; trial < 500; trial++) {
+            try (ConcurrentIntervalSet set = new ConcurrentIntervalSet()) {
+                set.include(Interval.of(1, 1));
+                Thread awaiting = new Thread(() -> {
+                    try {
+                        set.awaitSnapshot();
+                    } catch (InterruptedException ignored) {
+                    }
+                });
+                Thread writing = new Thread(() -> set.include(Interval.of(3, 3)));
+                awaiting.start();
+                writing.start();
+                awaiting.join();
+                writing.join();
+
+                assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                    while (set.snapshot().version < 2) {
+                        Thread.onSpinWait();
+                    }
+                });
+            }
+        }
+    }
+}
@@ -1,9 +1,15 @@
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,4 +43,21 @@ public class InputTest {
         intervals = Tools.parseIntervalsFromInput(reader);
         assertTrue(intervals.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMainReadsFile(@TempDir Path directory) throws IOException {
+        Path input = directory.resolve("input.txt");
+        Files.writeString(input, "11-11, 3-7, 5-9, 11-15\n4-5, 6-7\n", StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        try {
+            Main.main(new String[]{input.toString()});
+        } finally {
+            System.setOut(stdout);
+        }
+
+        assertEquals("[3-3, 8-9, 11-15]", out.toString(StandardCharsets.UTF_8).strip());
+    }
+}
@@ -279,6 +279,12 @@ public class IntervalTest {
         assertEquals(in0, Interval.parseInterval(" -3--1"));
 
         assertThrowsExactly(RuntimeException.class, () -> Interval.parseInterval("-1"));
+        assertThrowsExactly(RuntimeException.class, () -> Interval.parseInterval("1-"));
+        assertThrowsExactly(RuntimeException.class, () -> Interval.parseInterval("--1-2"));
+        assertThrowsExactly(RuntimeException.class, () -> Interval.parseInterval("1---2"));
+        assertThrowsExactly(RuntimeException.class, () -> Interval.parseInterval("+1-2"));
+        assertThrowsExactly(RuntimeException.class, () -> Interval.parseInterval("1 - 2"));
+        assertThrowsExactly(RuntimeException.class, () -> Interval.parseInterval(""));
     }
 
     @Test
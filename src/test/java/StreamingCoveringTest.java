@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingCoveringTest {
+
+    @Test
+    public void testMatchesBatchCovering() throws IOException {
+        String testString = "23-27, 82-89, 61-68, 94-101, 29-36, 45-53, 39-46, 88-97, 4-10, 90-92\n93-95, 71-79, 35-40, 30-31, 18-22";
+        BufferedReader reader = new BufferedReader(new StringReader(testString));
+        List<Interval> include = Tools.parseIntervalsFromInput(reader);
+        List<Interval> exclude = Tools.parseIntervalsFromInput(reader);
+
+        List<Interval> results = new ArrayList<>();
+        StreamingCovering covering = new StreamingCovering(0, results::add);
+        include.forEach(covering::include);
+        exclude.forEach(covering::exclude);
+        covering.flush();
+
+        assertEquals(Tools.minimalNonExcludedIntervalCovering(include, exclude), results);
+    }
+
+    @Test
+    public void testWatermarkEmitsFinalIntervals() {
+        List<Interval> results = new ArrayList<>();
+        StreamingCovering covering = new StreamingCovering(0, results::add);
+        covering.include(Interval.of(0, 100));
+        covering.exclude(Interval.of(10, 20));
+
+        covering.watermark(50);
+        assertEquals(List.of(Interval.of(0, 9)), results);
+
+        //the open interval is not emitted, as it could still be extended
+        covering.watermark(101);
+        assertEquals(List.of(Interval.of(0, 9)), results);
+
+        covering.watermark(102);
+        assertEquals(List.of(Interval.of(0, 9), Interval.of(21, 100)), results);
+        assertEquals(0, covering.activeSize());
+    }
+
+    @Test
+    public void testSequentialIntervalAtWatermarkIsMerged() {
+        List<Interval> results = new ArrayList<>();
+        StreamingCovering covering = new StreamingCovering(0, results::add);
+        covering.include(Interval.of(0, 9));
+        covering.watermark(10);
+        covering.include(Interval.of(10, 15));
+        covering.flush();
+
+        assertEquals(List.of(Interval.of(0, 15)), results);
+        assertEquals(0, covering.lateArrivals());
+    }
+
+    @Test
+    public void testLateArrivals() {
+        List<Interval> results = new ArrayList<>();
+        StreamingCovering covering = new StreamingCovering(5, results::add);
+        covering.include(Interval.of(0, 9));
+        covering.include(Interval.of(20, 30));
+        covering.watermark(40);
+        assertEquals(List.of(Interval.of(0, 9), Interval.of(20, 30)), results);
+
+        //within the allowed lateness
+        covering.include(Interval.of(36, 38));
+        //below what has been emitted, clipped
+        covering.exclude(Interval.of(33, 37));
+        covering.include(Interval.of(25, 34));
+        covering.flush();
+
+        assertEquals(List.of(Interval.of(0, 9), Interval.of(20, 30), Interval.of(38, 38)), results);
+        assertEquals(2, covering.lateArrivals());
+    }
+
+    @Test
+    public void testWindowStaysBounded() {
+        Random random = new Random(42);
+        List<Interval> include = new ArrayList<>();
+        List<Interval> exclude = new ArrayList<>();
+        List<Interval> results = new ArrayList<>();
+        StreamingCovering covering = new StreamingCovering(20, results::add);
+
+        int maxActive = 0;
+        for (int time = 0; time < 100_000; time += 10) {
+            Interval in = Interval.of(time + random.nextInt(20), time + random.nextInt(40));
+            Interval ex = Interval.of(time + random.nextInt(20), time + random.nextInt(30));
+            include.add(in);
+            exclude.add(ex);
+            covering.include(in);
+            covering.exclude(ex);
+            if (time % 100 == 0) {
+                covering.watermark(time);
+                maxActive = Math.max(maxActive, covering.activeSize());
+            }
+        }
+        covering.flush();
+
+        assertEquals(0, covering.lateArrivals());
+        assertTrue(maxActive < 100, "window grew to " + maxActive);
+        assertEquals(Tools.minimalNonExcludedIntervalCovering(include, exclude), results);
+        assertTrue(ToolsTest.isSortedAndUnique(results));
+    }
+
+    @Test
+    public void testNegativeLateness() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> new StreamingCovering(-1, i -> {}));
+    }
+}
@@ -4,9 +4,12 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ToolsTest {
@@ -64,6 +67,17 @@ public class ToolsTest {
         assertTrue(isSortedAndUnique(exclude));
     }
 
+    @Test
+    public void testEmptyIntervals() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader("1-5\n(none)"));
+        List<Interval> include = Tools.parseIntervalsFromInput(reader);
+        List<Interval> exclude = Tools.parseIntervalsFromInput(reader);
+
+        assertTrue(Tools.combineOverlappingIntervals(exclude).isEmpty());
+        assertEquals(List.of(Interval.of(1, 5)), Tools.minimalNonExcludedIntervalCovering(include, exclude));
+        assertTrue(Tools.minimalNonExcludedIntervalCovering(exclude, include).isEmpty());
+    }
+
     @Test
     public void testMinimalNonExcludedIntervalCoveringSmall() throws IOException {
         String testString = "11-11, 3-7, 5-9, 11-15\n4-5, 6-7";
@@ -96,4 +110,128 @@ public class ToolsTest {
 
         assertTrue(isSortedAndUnique(results));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMergeCombinedIntervals() {
+        List<Interval> left = List.of(Interval.of(1, 3), Interval.of(10, 12), Interval.of(20, 25));
+        List<Interval> right = List.of(Interval.of(4, 5), Interval.of(11, 15), Interval.of(30, 31));
+
+        List<Interval> expected = List.of(Interval.of(1, 5), Interval.of(10, 15), Interval.of(20, 25), Interval.of(30, 31));
+        assertEquals(expected, Tools.mergeCombinedIntervals(left, right));
+        assertEquals(expected, Tools.mergeCombinedIntervals(right, left));
+        assertEquals(left, Tools.mergeCombinedIntervals(left, List.of()));
+        assertTrue(Tools.mergeCombinedIntervals(List.of(), List.of()).isEmpty());
+    }
+
+    @Test
+    public void testNonExcludedCoveringDoesNotMutate() {
+        List<Interval> include = List.of(Interval.of(3, 9), Interval.of(11, 15), Interval.of(20, 30));
+        List<Interval> exclude = List.of(Interval.of(4, 5), Interval.of(7, 7), Interval.of(12, 22));
+
+        //immutable lists, so any mutation throws
+        List<Interval> results = Tools.nonExcludedCovering(include, exclude);
+
+        assertEquals(List.of(Interval.of(3, 3), Interval.of(6, 6), Interval.of(8, 9),
+                Interval.of(11, 11), Interval.of(23, 30)), results);
+    }
+
+    private static class CollectingSink implements DiffSink {
+        final List<Interval> added = new ArrayList<>();
+        final List<Interval> removed = new ArrayList<>();
+
+        @Override
+        public void added(Interval interval) {
+            added.add(interval);
+        }
+
+        @Override
+        public void removed(Interval interval) {
+            removed.add(interval);
+        }
+    }
+
+    @Test
+    public void testDiffCoverings() throws IOException {
+        List<Interval> before = Tools.parseIntervalsFromInput(new BufferedReader(new StringReader("-10--5, 1-5, 10-20, 30-40")));
+        List<Interval> after = Tools.parseIntervalsFromInput(new BufferedReader(new StringReader("-10--5, 3-8, 10-15, 18-25, 35-40")));
+
+        CollectingSink sink = new CollectingSink();
+        Tools.diffCoverings(before, after, sink);
+
+        assertEquals(List.of(Interval.of(6, 8), Interval.of(21, 25)), sink.added);
+        assertEquals(List.of(Interval.of(1, 2), Interval.of(16, 17), Interval.of(30, 34)), sink.removed);
+
+        //no changes
+        sink = new CollectingSink();
+        Tools.diffCoverings(before, before, sink);
+        assertTrue(sink.added.isEmpty());
+        assertTrue(sink.removed.isEmpty());
+
+        //from and to nothing
+        sink = new CollectingSink();
+        Tools.diffCoverings(new ArrayList<>(), after, sink);
+        assertEquals(after, sink.added);
+        sink = new CollectingSink();
+        Tools.diffCoverings(before, new ArrayList<>(), sink);
+        assertEquals(before, sink.removed);
+    }
+
+    @Test
+    public void testDiffCoveringsRejectsNonCoverings() {
+        List<Interval> covering = List.of(Interval.of(1, 5));
+        CollectingSink sink = new CollectingSink();
+
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> Tools.diffCoverings(List.of(Interval.of(1, 5), Interval.of(4, 8)), covering, sink));
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> Tools.diffCoverings(covering, List.of(Interval.of(1, 5), Interval.of(6, 8)), sink));
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> Tools.diffCoverings(covering, List.of(Interval.of(6, 8), Interval.of(1, 2)), sink));
+
+        //the sink receives nothing, even for changes before the invalid interval
+        assertTrue(sink.added.isEmpty());
+        assertTrue(sink.removed.isEmpty());
+        StringBuilder out = new StringBuilder();
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> Tools.diffCoverings(List.of(Interval.of(10, 20)), List.of(Interval.of(0, 2), Interval.of(1, 1)), new ChangeLog(out)));
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    public void testDiffCoveringsRandom() {
+        Random random = new Random(7);
+        for (int round = 0; round < 100; round++) {
+            List<Interval> before = randomCovering(random);
+            List<Interval> after = randomCovering(random);
+            CollectingSink sink = new CollectingSink();
+            Tools.diffCoverings(before, after, sink);
+
+            //applying the diff to before gives after, and the diff is minimal
+            List<Interval> kept = Tools.minimalNonExcludedIntervalCovering(new ArrayList<>(before), new ArrayList<>(sink.removed));
+            kept.addAll(sink.added);
+            assertEquals(after, Tools.combineOverlappingIntervals(kept));
+            assertEquals(sink.added, Tools.minimalNonExcludedIntervalCovering(new ArrayList<>(after), new ArrayList<>(before)));
+            assertEquals(sink.removed, Tools.minimalNonExcludedIntervalCovering(new ArrayList<>(before), new ArrayList<>(after)));
+        }
+    }
+
+    private static List<Interval> randomCovering(Random random) {
+        List<Interval> include = new ArrayList<>();
+        List<Interval> exclude = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int start = random.nextInt(1000) - 500;
+            include.add(Interval.of(start, start + random.nextInt(40)));
+            start = random.nextInt(1000) - 500;
+            exclude.add(Interval.of(start, start + random.nextInt(20)));
+        }
+        return Tools.minimalNonExcludedIntervalCovering(include, exclude);
+    }
+
+    @Test
+    public void testChangeLog() {
+        StringBuilder out = new StringBuilder();
+        Tools.diffCoverings(List.of(Interval.of(-5, 5)), List.of(Interval.of(-3, 8)), new ChangeLog(out));
+
+        assertEquals("--5--4\n+6-8\n", out.toString());
+    }
+}